@@ -0,0 +1,33 @@
+package com.db.awmd.challenge.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.util.Objects;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Scheduler for background work such as the exchange rate reload and the hold expiry sweep.
+ * Uses more than one thread so a slow task cannot delay the others, and virtual threads
+ * when {@code accounts.virtual-threads.enabled=true}.
+ */
+@Configuration
+public class SchedulingConfig {
+
+  @Bean
+  public ThreadPoolTaskScheduler taskScheduler(@Value("${accounts.virtual-threads.enabled:false}") boolean virtualThreads,
+                                               @Value("${accounts.scheduler.pool-size:2}") int poolSize) {
+    ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+    scheduler.setPoolSize(poolSize);
+    scheduler.setThreadNamePrefix("accounts-scheduler-");
+    if (virtualThreads) {
+      ThreadFactory threadFactory = VirtualThreads.newThreadFactory("accounts-scheduler-");
+      if (Objects.nonNull(threadFactory)) {
+        scheduler.setThreadFactory(threadFactory);
+      }
+    }
+    return scheduler;
+  }
+}
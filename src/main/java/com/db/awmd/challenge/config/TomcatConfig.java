@@ -0,0 +1,28 @@
+package com.db.awmd.challenge.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.embedded.EmbeddedServletContainerCustomizer;
+import org.springframework.boot.context.embedded.tomcat.TomcatEmbeddedServletContainerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Connection limits of the Tomcat connector. Tomcat's NIO defaults (10000 connections,
+ * backlog of 100) refuse most of a load test with tens of thousands of concurrent clients.
+ */
+@Configuration
+public class TomcatConfig {
+
+  @Bean
+  public EmbeddedServletContainerCustomizer connectionLimitsCustomizer(@Value("${accounts.tomcat.max-connections:10000}") int maxConnections,
+                                                                       @Value("${accounts.tomcat.accept-count:100}") int acceptCount) {
+    return container -> {
+      if (container instanceof TomcatEmbeddedServletContainerFactory) {
+        ((TomcatEmbeddedServletContainerFactory) container).addConnectorCustomizers(connector -> {
+          connector.setAttribute("maxConnections", maxConnections);
+          connector.setAttribute("acceptCount", acceptCount);
+        });
+      }
+    };
+  }
+}
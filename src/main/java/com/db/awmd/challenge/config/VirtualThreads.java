@@ -0,0 +1,39 @@
+package com.db.awmd.challenge.config;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Virtual thread factories, looked up reflectively as the project is still compiled for Java 8.
+ * Each method returns null on a JVM without virtual threads.
+ */
+@Slf4j
+public final class VirtualThreads {
+
+  private VirtualThreads() {
+  }
+
+  public static ExecutorService newVirtualThreadPerTaskExecutor() {
+    try {
+      return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+    } catch (ReflectiveOperationException e) {
+      log.warn("Virtual threads are not supported by this JVM, keeping platform threads.");
+      return null;
+    }
+  }
+
+  public static ThreadFactory newThreadFactory(String namePrefix) {
+    try {
+      Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+      Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+      builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, namePrefix, 0L);
+      return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+    } catch (ReflectiveOperationException e) {
+      log.warn("Virtual threads are not supported by this JVM, keeping platform threads.");
+      return null;
+    }
+  }
+}
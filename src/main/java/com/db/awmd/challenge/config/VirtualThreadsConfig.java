@@ -0,0 +1,45 @@
+package com.db.awmd.challenge.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.coyote.AbstractProtocol;
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.embedded.EmbeddedServletContainerCustomizer;
+import org.springframework.boot.context.embedded.tomcat.TomcatEmbeddedServletContainerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Runs every Tomcat request on its own virtual thread instead of the fixed worker pool.
+ * Enabled with {@code accounts.virtual-threads.enabled=true}; on a JVM without virtual
+ * threads the default Tomcat pool is kept.
+ *
+ * The executor is never shut down explicitly: it pools no threads, and Tomcat keeps
+ * handing it requests until the connector stops, which happens after beans are destroyed.
+ */
+@Configuration
+@ConditionalOnProperty(name = "accounts.virtual-threads.enabled", havingValue = "true")
+@Slf4j
+public class VirtualThreadsConfig {
+
+  private final ExecutorService executor = VirtualThreads.newVirtualThreadPerTaskExecutor();
+
+  @Bean
+  public EmbeddedServletContainerCustomizer virtualThreadContainerCustomizer() {
+    return container -> {
+      if (Objects.isNull(executor) || !(container instanceof TomcatEmbeddedServletContainerFactory)) {
+        return;
+      }
+      ((TomcatEmbeddedServletContainerFactory) container).addConnectorCustomizers(connector -> {
+        ProtocolHandler handler = connector.getProtocolHandler();
+        if (handler instanceof AbstractProtocol) {
+          ((AbstractProtocol<?>) handler).setExecutor(executor);
+          log.info("Tomcat connector on port {} is running requests on virtual threads.", connector.getPort());
+        }
+      });
+    };
+  }
+}
@@ -1,10 +1,13 @@
 package com.db.awmd.challenge.domain;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import java.math.BigDecimal;
 import javax.validation.constraints.Min;
 import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Pattern;
 import lombok.Data;
 import org.hibernate.validator.constraints.NotEmpty;
 
@@ -19,15 +22,37 @@ public class Account {
   @Min(value = 0, message = "Initial balance must be positive.")
   private BigDecimal balance;
 
+  //ISO 4217 code, accounts without a currency only transfer to and from other accounts without one.
+  @JsonInclude(JsonInclude.Include.NON_NULL)
+  @Pattern(regexp = "[A-Z]{3}", message = "Currency must be an ISO 4217 code.")
+  private final String currency;
+
+  //part of the balance reserved by outstanding holds, not available for transfers.
+  @JsonIgnore
+  private BigDecimal reservedBalance = BigDecimal.ZERO;
+
   public Account(String accountId) {
     this.accountId = accountId;
     this.balance = BigDecimal.ZERO;
+    this.currency = null;
+  }
+
+  public Account(String accountId, BigDecimal balance) {
+    this(accountId, balance, null);
   }
 
   @JsonCreator
   public Account(@JsonProperty("accountId") String accountId,
-    @JsonProperty("balance") BigDecimal balance) {
+    @JsonProperty("balance") BigDecimal balance,
+    @JsonProperty("currency") String currency) {
     this.accountId = accountId;
     this.balance = balance;
+    this.currency = currency;
+  }
+
+  //balance minus holds, shown so clients can see why a transfer is refused.
+  @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+  public BigDecimal getAvailableBalance() {
+    return this.balance.subtract(this.reservedBalance);
   }
 }
@@ -0,0 +1,23 @@
+package com.db.awmd.challenge.domain;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+@Data
+public class Hold {
+
+  private final String holdId;
+
+  private final String accountFrom;
+
+  private final String accountTo;
+
+  //reserved on accountFrom, in the currency of accountFrom.
+  private final BigDecimal amount;
+
+  //System.nanoTime() based, only meaningful inside this JVM.
+  @JsonIgnore
+  private final long deadlineNanos;
+}
@@ -0,0 +1,8 @@
+package com.db.awmd.challenge.exception;
+
+public class AccountNotFoundException extends RuntimeException {
+
+  public AccountNotFoundException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,8 @@
+package com.db.awmd.challenge.exception;
+
+public class CurrencyConversionException extends RuntimeException {
+
+  public CurrencyConversionException(String message) {
+    super(message);
+  }
+}
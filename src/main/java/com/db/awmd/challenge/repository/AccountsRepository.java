@@ -1,8 +1,11 @@
 package com.db.awmd.challenge.repository;
 
 import com.db.awmd.challenge.domain.Account;
+import com.db.awmd.challenge.domain.Hold;
+import com.db.awmd.challenge.exception.AccountNotFoundException;
 import com.db.awmd.challenge.exception.AccountOverdraftException;
 import com.db.awmd.challenge.exception.DuplicateAccountIdException;
+import com.db.awmd.challenge.exception.HoldNotFoundException;
 
 import java.math.BigDecimal;
 
@@ -15,4 +18,16 @@ public interface AccountsRepository {
   void clearAccounts();
 
   void transferBalance(Account accountFrom, Account accountTo, BigDecimal amount) throws AccountOverdraftException;
+
+  void transferBalance(Account accountFrom, Account accountTo, BigDecimal debitAmount, BigDecimal creditAmount) throws AccountOverdraftException;
+
+  void createHold(Hold hold) throws AccountOverdraftException, AccountNotFoundException;
+
+  Hold getHold(String holdId);
+
+  void captureHold(Hold hold, BigDecimal creditAmount) throws HoldNotFoundException;
+
+  void releaseHold(Hold hold) throws HoldNotFoundException;
+
+  int releaseExpiredHolds(long nowNanos);
 }
@@ -1,21 +1,31 @@
 package com.db.awmd.challenge.repository;
 
 import com.db.awmd.challenge.domain.Account;
+import com.db.awmd.challenge.domain.Hold;
+import com.db.awmd.challenge.exception.AccountNotFoundException;
 import com.db.awmd.challenge.exception.AccountOverdraftException;
 import com.db.awmd.challenge.exception.DuplicateAccountIdException;
+import com.db.awmd.challenge.exception.HoldNotFoundException;
 
 import java.math.BigDecimal;
 import java.util.Map;
 
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 import org.springframework.stereotype.Repository;
 
 @Repository
 public class AccountsRepositoryInMemory implements AccountsRepository {
 
+  //computeIfPresent holds a bin monitor, which pins a virtual thread on JDK 21-23, but only
+  //around in-memory balance arithmetic, so no carrier thread is held across a blocking wait.
   private final Map<String, Account> accounts = new ConcurrentHashMap<>();
 
+  private final Map<String, HoldExpiryWheel.Timeout> holds = new ConcurrentHashMap<>();
+
+  private final HoldExpiryWheel holdExpiryWheel = new HoldExpiryWheel(TimeUnit.SECONDS.toNanos(1), 4096);
+
   @Override
   public void createAccount(Account account) throws DuplicateAccountIdException {
     Account previousAccount = accounts.putIfAbsent(account.getAccountId(), account);
@@ -33,21 +43,92 @@ public class AccountsRepositoryInMemory implements AccountsRepository {
   @Override
   public void clearAccounts() {
     accounts.clear();
+    holds.clear();
+    holdExpiryWheel.clear();
   }
 
   @Override
   public void transferBalance(Account accountFrom, Account accountTo, BigDecimal amount) throws AccountOverdraftException {
-    doTransfer(accountFrom, accountTo, amount);
+    doTransfer(accountFrom, accountTo, amount, amount);
+  }
+
+  @Override
+  public void transferBalance(Account accountFrom, Account accountTo, BigDecimal debitAmount, BigDecimal creditAmount) throws AccountOverdraftException {
+    doTransfer(accountFrom, accountTo, debitAmount, creditAmount);
+  }
+
+  @Override
+  public void createHold(Hold hold) throws AccountOverdraftException, AccountNotFoundException {
+    //a hold on a missing account would later credit accountTo without debiting anyone.
+    if (!this.accounts.containsKey(hold.getAccountTo())) {
+      throw new AccountNotFoundException("Account Id " + hold.getAccountTo() + " does not exists.");
+    }
+    this.accounts.compute(hold.getAccountFrom(), (k,v) -> {
+      if (v == null) {
+        throw new AccountNotFoundException("Account Id " + k + " does not exists.");
+      }
+      return reserveBalance(v, hold.getAmount());
+    } );
+    HoldExpiryWheel.Timeout timeout = this.holdExpiryWheel.newTimeout(hold);
+    this.holds.put(hold.getHoldId(), timeout);
+    this.holdExpiryWheel.schedule(timeout);
+  }
+
+  @Override
+  public Hold getHold(String holdId) {
+    HoldExpiryWheel.Timeout timeout = holds.get(holdId);
+    return timeout == null ? null : timeout.getHold();
+  }
+
+  //holds still waiting to be captured, released or expired.
+  public int outstandingHolds() {
+    return holdExpiryWheel.size();
+  }
+
+  @Override
+  public void captureHold(Hold hold, BigDecimal creditAmount) throws HoldNotFoundException {
+    claimHold(hold);
+    this.accounts.computeIfPresent(hold.getAccountFrom(), (k,v) -> { return captureBalance(v, hold.getAmount()); } );
+    this.accounts.computeIfPresent(hold.getAccountTo(), (k,v) -> { return addBalance(v, creditAmount);} );
+  }
+
+  @Override
+  public void releaseHold(Hold hold) throws HoldNotFoundException {
+    claimHold(hold);
+    this.accounts.computeIfPresent(hold.getAccountFrom(), (k,v) -> { return unreserveBalance(v, hold.getAmount()); } );
+  }
+
+  @Override
+  public int releaseExpiredHolds(long nowNanos) {
+    int released = 0;
+    for (Hold hold : this.holdExpiryWheel.expire(nowNanos)) {
+      HoldExpiryWheel.Timeout timeout = this.holds.get(hold.getHoldId());
+      //a hold captured or released meanwhile is no longer in the map.
+      if (timeout != null && timeout.getHold() == hold && this.holds.remove(hold.getHoldId(), timeout)) {
+        this.accounts.computeIfPresent(hold.getAccountFrom(), (k,v) -> { return unreserveBalance(v, hold.getAmount()); } );
+        released++;
+      }
+    }
+    return released;
   }
 
-  private void doTransfer(Account accountFrom, Account accountTo, BigDecimal amount) {
-    this.accounts.computeIfPresent(accountFrom.getAccountId(), (k,v) -> { return subtractBalance(v, amount); } );
-    this.accounts.computeIfPresent(accountTo.getAccountId(), (k,v) -> { return addBalance(v, amount);} );
+  //captured, released and expired holds all race on this remove, only one of them wins.
+  private void claimHold(Hold hold) throws HoldNotFoundException {
+    HoldExpiryWheel.Timeout timeout = this.holds.get(hold.getHoldId());
+    if (timeout == null || timeout.getHold() != hold || !this.holds.remove(hold.getHoldId(), timeout)) {
+      throw new HoldNotFoundException("Hold Id " + hold.getHoldId() + " does not exist.");
+    }
+    this.holdExpiryWheel.cancel(timeout);
+  }
+
+  private void doTransfer(Account accountFrom, Account accountTo, BigDecimal debitAmount, BigDecimal creditAmount) {
+    this.accounts.computeIfPresent(accountFrom.getAccountId(), (k,v) -> { return subtractBalance(v, debitAmount); } );
+    this.accounts.computeIfPresent(accountTo.getAccountId(), (k,v) -> { return addBalance(v, creditAmount);} );
   }
 
   private static void checkBalance(Account account, BigDecimal amount) throws AccountOverdraftException {
     //overdraft is not allowed, balance available in the account is less than the amount being transferred.
-    if(account.getBalance().compareTo(amount) < 0  ) {
+    if(account.getAvailableBalance().compareTo(amount) < 0  ) {
       throw new AccountOverdraftException("Account Id " + account.getAccountId() + " has insufficient balance.");
     }
   }
@@ -61,4 +142,21 @@ public class AccountsRepositoryInMemory implements AccountsRepository {
     account.setBalance(account.getBalance().subtract(amount));
     return account;
   }
+
+  private static Account reserveBalance(Account account, BigDecimal amount) {
+    checkBalance(account, amount);
+    account.setReservedBalance(account.getReservedBalance().add(amount));
+    return account;
+  }
+
+  private static Account unreserveBalance(Account account, BigDecimal amount) {
+    account.setReservedBalance(account.getReservedBalance().subtract(amount));
+    return account;
+  }
+
+  private static Account captureBalance(Account account, BigDecimal amount) {
+    account.setReservedBalance(account.getReservedBalance().subtract(amount));
+    account.setBalance(account.getBalance().subtract(amount));
+    return account;
+  }
 }
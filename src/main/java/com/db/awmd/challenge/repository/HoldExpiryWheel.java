@@ -0,0 +1,212 @@
+package com.db.awmd.challenge.repository;
+
+import com.db.awmd.challenge.domain.Hold;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hashed timing wheel tracking when outstanding holds expire.
+ *
+ * Each bucket is an intrusive doubly-linked list guarded by its own lock, so scheduling
+ * and cancelling a hold are O(1) and a cancelled hold is freed straight away. Deadlines
+ * are {@link System#nanoTime()} values; a hold expires on the first sweep after the tick
+ * its deadline falls in, so insertion order does not matter.
+ *
+ * Locks are ReentrantLocks rather than monitors: waiting on a monitor pins the carrier
+ * thread of a virtual thread on JDK 21-23, waiting on a ReentrantLock does not.
+ */
+public class HoldExpiryWheel {
+
+  private final long startNanos;
+
+  private final long tickNanos;
+
+  private final Bucket[] buckets;
+
+  private final int mask;
+
+  private final ReentrantLock sweepLock = new ReentrantLock();
+
+  //guarded by sweepLock, every tick up to and including it has been swept.
+  private long lastExpiredTick;
+
+  public HoldExpiryWheel(long tickNanos, int wheelSize) {
+    if (Integer.bitCount(wheelSize) != 1) {
+      throw new IllegalArgumentException("Wheel size " + wheelSize + " must be a power of two.");
+    }
+    this.startNanos = System.nanoTime();
+    this.tickNanos = tickNanos;
+    this.buckets = new Bucket[wheelSize];
+    for (int i = 0; i < wheelSize; i++) {
+      this.buckets[i] = new Bucket();
+    }
+    this.mask = wheelSize - 1;
+    this.lastExpiredTick = -1;
+  }
+
+  public Timeout newTimeout(Hold hold) {
+    long tick = tickOf(hold.getDeadlineNanos());
+    return new Timeout(hold, tick, this.buckets[(int) (tick & this.mask)]);
+  }
+
+  public void schedule(Timeout timeout) {
+    timeout.bucket.lock.lock();
+    try {
+      //a hold claimed before it was scheduled is never linked.
+      if (!timeout.cancelled) {
+        timeout.bucket.link(timeout);
+      }
+    } finally {
+      timeout.bucket.lock.unlock();
+    }
+  }
+
+  public void cancel(Timeout timeout) {
+    timeout.bucket.lock.lock();
+    try {
+      timeout.cancelled = true;
+      timeout.bucket.unlink(timeout);
+    } finally {
+      timeout.bucket.lock.unlock();
+    }
+  }
+
+  /**
+   * Unlinks and returns the holds whose deadline tick has fully elapsed at {@code nowNanos}.
+   */
+  public List<Hold> expire(long nowNanos) {
+    this.sweepLock.lock();
+    try {
+      long threshold = tickOf(nowNanos) - 1;
+      List<Hold> expired = new ArrayList<>();
+      long ticks = Math.min(threshold - this.lastExpiredTick, this.buckets.length);
+      for (long i = 1; i <= ticks; i++) {
+        Bucket bucket = this.buckets[(int) ((this.lastExpiredTick + i) & this.mask)];
+        bucket.lock.lock();
+        try {
+          Timeout timeout = bucket.head;
+          while (timeout != null) {
+            Timeout next = timeout.next;
+            //later rounds of the wheel share the bucket and stay linked.
+            if (timeout.tick <= threshold) {
+              timeout.cancelled = true;
+              bucket.unlink(timeout);
+              expired.add(timeout.hold);
+            }
+            timeout = next;
+          }
+        } finally {
+          bucket.lock.unlock();
+        }
+      }
+      this.lastExpiredTick = Math.max(this.lastExpiredTick, threshold);
+      return expired;
+    } finally {
+      this.sweepLock.unlock();
+    }
+  }
+
+  public void clear() {
+    this.sweepLock.lock();
+    try {
+      for (Bucket bucket : this.buckets) {
+        bucket.lock.lock();
+        try {
+          while (bucket.head != null) {
+            bucket.head.cancelled = true;
+            bucket.unlink(bucket.head);
+          }
+        } finally {
+          bucket.lock.unlock();
+        }
+      }
+      this.lastExpiredTick = tickOf(System.nanoTime()) - 1;
+    } finally {
+      this.sweepLock.unlock();
+    }
+  }
+
+  public int size() {
+    int size = 0;
+    for (Bucket bucket : this.buckets) {
+      bucket.lock.lock();
+      try {
+        size += bucket.size;
+      } finally {
+        bucket.lock.unlock();
+      }
+    }
+    return size;
+  }
+
+  private long tickOf(long nanos) {
+    return Math.floorDiv(nanos - this.startNanos, this.tickNanos);
+  }
+
+  public static final class Timeout {
+
+    private final Hold hold;
+
+    private final long tick;
+
+    private final Bucket bucket;
+
+    //guarded by bucket.lock.
+    private Timeout prev;
+
+    private Timeout next;
+
+    private boolean linked;
+
+    private boolean cancelled;
+
+    private Timeout(Hold hold, long tick, Bucket bucket) {
+      this.hold = hold;
+      this.tick = tick;
+      this.bucket = bucket;
+    }
+
+    public Hold getHold() {
+      return hold;
+    }
+  }
+
+  private static final class Bucket {
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private Timeout head;
+
+    private int size;
+
+    private void link(Timeout timeout) {
+      timeout.next = head;
+      if (head != null) {
+        head.prev = timeout;
+      }
+      head = timeout;
+      timeout.linked = true;
+      size++;
+    }
+
+    private void unlink(Timeout timeout) {
+      if (!timeout.linked) {
+        return;
+      }
+      if (timeout.prev != null) {
+        timeout.prev.next = timeout.next;
+      } else {
+        head = timeout.next;
+      }
+      if (timeout.next != null) {
+        timeout.next.prev = timeout.prev;
+      }
+      timeout.prev = null;
+      timeout.next = null;
+      timeout.linked = false;
+      size--;
+    }
+  }
+}
@@ -1,26 +1,44 @@
 package com.db.awmd.challenge.service;
 
 import com.db.awmd.challenge.domain.Account;
+import com.db.awmd.challenge.domain.Hold;
+import com.db.awmd.challenge.exception.AccountNotFoundException;
 import com.db.awmd.challenge.exception.AccountOverdraftException;
+import com.db.awmd.challenge.exception.CurrencyConversionException;
+import com.db.awmd.challenge.exception.HoldNotFoundException;
 import com.db.awmd.challenge.repository.AccountsRepository;
 import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 
 @Service
+@Slf4j
 public class AccountsService {
 
   @Getter
   private final AccountsRepository accountsRepository;
 
+  @Getter
+  private final FxRateService fxRateService;
+
+  private final long holdTtlNanos;
 
   @Autowired
-  public AccountsService(AccountsRepository accountsRepository) {
+  public AccountsService(AccountsRepository accountsRepository, FxRateService fxRateService,
+                         @Value("${accounts.holds.ttl-ms:604800000}") long holdTtlMillis) {
     this.accountsRepository = accountsRepository;
+    this.fxRateService = fxRateService;
+    this.holdTtlNanos = TimeUnit.MILLISECONDS.toNanos(holdTtlMillis);
   }
 
   public void createAccount(Account account) {
@@ -31,7 +49,51 @@ public class AccountsService {
     return this.accountsRepository.getAccount(accountId);
   }
 
-  public void transferBalance(Account accountFrom, Account accountTo, final BigDecimal amount) throws AccountOverdraftException {
-      this.accountsRepository.transferBalance(accountFrom, accountTo, amount);
+  public void transferBalance(Account accountFrom, Account accountTo, final BigDecimal amount) throws AccountOverdraftException, CurrencyConversionException {
+      //amount is in the currency of accountFrom, accountTo is credited with the converted amount.
+      BigDecimal creditAmount = this.fxRateService.convert(amount, accountFrom.getCurrency(), accountTo.getCurrency());
+      this.accountsRepository.transferBalance(accountFrom, accountTo, amount, creditAmount);
+  }
+
+  public Hold authorizeHold(Account accountFrom, Account accountTo, final BigDecimal amount) throws AccountOverdraftException, AccountNotFoundException, CurrencyConversionException {
+    //fail on authorize rather than on capture when the currencies cannot be converted.
+    this.fxRateService.convert(amount, accountFrom.getCurrency(), accountTo.getCurrency());
+    //the id alone authorizes capture and release, so it comes from SecureRandom.
+    Hold hold = new Hold(UUID.randomUUID().toString(), accountFrom.getAccountId(), accountTo.getAccountId(),
+      amount, System.nanoTime() + this.holdTtlNanos);
+    this.accountsRepository.createHold(hold);
+    return hold;
+  }
+
+  public void captureHold(String holdId) throws HoldNotFoundException, CurrencyConversionException {
+    Hold hold = getActiveHold(holdId);
+    Account accountFrom = this.accountsRepository.getAccount(hold.getAccountFrom());
+    Account accountTo = this.accountsRepository.getAccount(hold.getAccountTo());
+    BigDecimal creditAmount = this.fxRateService.convert(hold.getAmount(), accountFrom.getCurrency(), accountTo.getCurrency());
+    this.accountsRepository.captureHold(hold, creditAmount);
+  }
+
+  public void releaseHold(String holdId) throws HoldNotFoundException {
+    this.accountsRepository.releaseHold(getActiveHold(holdId));
+  }
+
+  @Scheduled(fixedDelayString = "${accounts.holds.sweep-interval-ms:1000}")
+  public void releaseExpiredHolds() {
+    int released = this.accountsRepository.releaseExpiredHolds(System.nanoTime());
+    if (released > 0) {
+      log.info("Released {} expired holds", released);
+    }
+  }
+
+  private Hold getActiveHold(String holdId) throws HoldNotFoundException {
+    Hold hold = this.accountsRepository.getHold(holdId);
+    if (Objects.isNull(hold)) {
+      throw new HoldNotFoundException("Hold Id " + holdId + " does not exist.");
+    }
+    //an expired hold is left for the sweeper to release.
+    if (System.nanoTime() - hold.getDeadlineNanos() >= 0) {
+      throw new HoldNotFoundException("Hold Id " + holdId + " has expired.");
+    }
+    return hold;
   }
 }
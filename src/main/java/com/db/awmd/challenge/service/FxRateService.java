@@ -0,0 +1,167 @@
+package com.db.awmd.challenge.service;
+
+import com.db.awmd.challenge.exception.CurrencyConversionException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.Collections;
+import java.util.Currency;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+
+/**
+ * Converts transfer amounts between account currencies.
+ *
+ * Rates are kept in an immutable table that is replaced as a whole on refresh, so
+ * transfers read it without locking. Inverse rates and target scales are computed
+ * when the table is built, so a conversion is a single multiply and rounding.
+ */
+@Service
+@Slf4j
+public class FxRateService {
+
+  private final String ratesFile;
+
+  private volatile RateTable rateTable = RateTable.EMPTY;
+
+  //modified time of the rates file last loaded, so an unchanged file is not reloaded.
+  private volatile FileTime ratesFileModified;
+
+  @Autowired
+  public FxRateService(@Value("${accounts.fx.rates-file:}") String ratesFile) {
+    this.ratesFile = ratesFile;
+  }
+
+  public BigDecimal convert(BigDecimal amount, String currencyFrom, String currencyTo) throws CurrencyConversionException {
+    if (Objects.isNull(currencyFrom) && Objects.isNull(currencyTo)) {
+      return amount;
+    }
+    //an amount cannot be converted to or from an account without a currency.
+    if (Objects.isNull(currencyFrom) || Objects.isNull(currencyTo)) {
+      throw new CurrencyConversionException("Cannot convert between an account in " + (Objects.isNull(currencyFrom) ? currencyTo : currencyFrom)
+        + " and an account without a currency.");
+    }
+    if (currencyFrom.equals(currencyTo)) {
+      return amount;
+    }
+    Factor factor = this.rateTable.get(currencyFrom, currencyTo);
+    if (Objects.isNull(factor)) {
+      throw new CurrencyConversionException("No exchange rate available from " + currencyFrom + " to " + currencyTo + ".");
+    }
+    BigDecimal converted = amount.multiply(factor.rate).setScale(factor.scale, RoundingMode.HALF_EVEN);
+    //never debit one side without crediting the other.
+    if (converted.signum() == 0 && amount.signum() != 0) {
+      throw new CurrencyConversionException("Amount " + amount + " is too small to convert from " + currencyFrom + " to " + currencyTo + ".");
+    }
+    return converted;
+  }
+
+  /**
+   * Replaces all rates, keyed by pair as in {@code EUR/USD=1.0842}. The inverse pair is
+   * derived unless it is given explicitly. Invalid rates throw IllegalArgumentException
+   * and leave the current rates in place.
+   */
+  public void updateRates(Map<String, BigDecimal> rates) {
+    Map<String, Map<String, Factor>> table = new HashMap<>();
+    rates.forEach((pair, rate) -> {
+      String[] currencies = parsePair(pair);
+      put(table, currencies[0], currencies[1], rate);
+    });
+    rates.forEach((pair, rate) -> {
+      String[] currencies = parsePair(pair);
+      Map<String, Factor> inverse = table.get(currencies[1]);
+      if (Objects.isNull(inverse) || !inverse.containsKey(currencies[0])) {
+        put(table, currencies[1], currencies[0], BigDecimal.ONE.divide(rate, MathContext.DECIMAL64));
+      }
+    });
+    this.rateTable = new RateTable(table);
+    log.info("Loaded {} exchange rates", rates.size());
+  }
+
+  @PostConstruct
+  @Scheduled(fixedDelayString = "${accounts.fx.refresh-interval-ms:60000}")
+  public void refreshFromFile() {
+    if (this.ratesFile.isEmpty()) {
+      return;
+    }
+    try {
+      Path path = Paths.get(this.ratesFile);
+      FileTime modified = Files.getLastModifiedTime(path);
+      if (modified.equals(this.ratesFileModified)) {
+        log.debug("Exchange rates in {} are unchanged", path);
+        return;
+      }
+      Properties properties = new Properties();
+      try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+        properties.load(reader);
+      }
+      Map<String, BigDecimal> rates = new HashMap<>();
+      properties.stringPropertyNames().forEach(pair -> rates.put(pair, new BigDecimal(properties.getProperty(pair).trim())));
+      updateRates(rates);
+      this.ratesFileModified = modified;
+    } catch (IOException | IllegalArgumentException e) {
+      //IllegalArgumentException also covers malformed numbers, pairs and currency codes.
+      log.error("Unable to load exchange rates from {}, keeping the current rates", this.ratesFile, e);
+    }
+  }
+
+  private static void put(Map<String, Map<String, Factor>> table, String currencyFrom, String currencyTo, BigDecimal rate) {
+    if (rate.signum() <= 0) {
+      throw new IllegalArgumentException("Exchange rate " + currencyFrom + "/" + currencyTo + " must be positive.");
+    }
+    int scale = Currency.getInstance(currencyTo).getDefaultFractionDigits();
+    table.computeIfAbsent(currencyFrom, k -> new HashMap<>()).put(currencyTo, new Factor(rate, Math.max(scale, 0)));
+  }
+
+  private static String[] parsePair(String pair) {
+    String[] currencies = pair.split("/");
+    if (currencies.length != 2) {
+      throw new IllegalArgumentException("Exchange rate pair " + pair + " must look like EUR/USD.");
+    }
+    return new String[] {currencies[0].trim(), currencies[1].trim()};
+  }
+
+  private static final class Factor {
+
+    private final BigDecimal rate;
+
+    private final int scale;
+
+    private Factor(BigDecimal rate, int scale) {
+      this.rate = rate;
+      this.scale = scale;
+    }
+  }
+
+  private static final class RateTable {
+
+    private static final RateTable EMPTY = new RateTable(Collections.emptyMap());
+
+    private final Map<String, Map<String, Factor>> factors;
+
+    private RateTable(Map<String, Map<String, Factor>> factors) {
+      this.factors = factors;
+    }
+
+    private Factor get(String currencyFrom, String currencyTo) {
+      Map<String, Factor> byTarget = this.factors.get(currencyFrom);
+      return Objects.isNull(byTarget) ? null : byTarget.get(currencyTo);
+    }
+  }
+}
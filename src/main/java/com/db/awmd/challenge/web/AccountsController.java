@@ -2,8 +2,12 @@ package com.db.awmd.challenge.web;
 
 import com.db.awmd.challenge.domain.Account;
 import com.db.awmd.challenge.domain.BalanceTransferRequest;
+import com.db.awmd.challenge.domain.Hold;
+import com.db.awmd.challenge.exception.AccountNotFoundException;
 import com.db.awmd.challenge.exception.AccountOverdraftException;
+import com.db.awmd.challenge.exception.CurrencyConversionException;
 import com.db.awmd.challenge.exception.DuplicateAccountIdException;
+import com.db.awmd.challenge.exception.HoldNotFoundException;
 import com.db.awmd.challenge.service.AccountsService;
 import javax.validation.Valid;
 import javax.validation.constraints.DecimalMin;
@@ -71,7 +75,57 @@ public class AccountsController {
 
     try {
       this.accountsService.transferBalance(accountFrom, accountTo, request.getAmount());
-    } catch(AccountOverdraftException e) {
+    } catch(AccountOverdraftException | CurrencyConversionException e) {
+      return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+    }
+
+    return new ResponseEntity<>(HttpStatus.OK);
+  }
+
+  @PostMapping(path = "/holds", consumes = MediaType.APPLICATION_JSON_VALUE)
+  public ResponseEntity<Object> authorizeHold(@RequestBody @Valid BalanceTransferRequest request) {
+
+    log.info("Holding balance {} on account id {} for account id {}", request.getAmount(), request.getAccountFrom(), request.getAccountTo());
+
+    Account accountFrom = this.accountsService.getAccount(request.getAccountFrom());
+    if(Objects.isNull(accountFrom)) {
+      return new ResponseEntity<>("Account Id " + request.getAccountFrom() + " does not exists.", HttpStatus.BAD_REQUEST);
+    }
+    Account accountTo = this.accountsService.getAccount(request.getAccountTo());
+    if(Objects.isNull(accountTo)) {
+      return new ResponseEntity<>("Account Id " + request.getAccountTo() + " does not exists.", HttpStatus.BAD_REQUEST);
+    }
+
+    Hold hold;
+    try {
+      hold = this.accountsService.authorizeHold(accountFrom, accountTo, request.getAmount());
+    } catch(AccountOverdraftException | AccountNotFoundException | CurrencyConversionException e) {
+      return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+    }
+
+    return new ResponseEntity<>(hold, HttpStatus.CREATED);
+  }
+
+  @PostMapping(path = "/holds/{holdId}/capture")
+  public ResponseEntity<Object> captureHold(@PathVariable String holdId) {
+    log.info("Capturing hold id {}", holdId);
+
+    try {
+      this.accountsService.captureHold(holdId);
+    } catch(HoldNotFoundException | CurrencyConversionException e) {
+      return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+    }
+
+    return new ResponseEntity<>(HttpStatus.OK);
+  }
+
+  @DeleteMapping(path = "/holds/{holdId}")
+  public ResponseEntity<Object> releaseHold(@PathVariable String holdId) {
+    log.info("Releasing hold id {}", holdId);
+
+    try {
+      this.accountsService.releaseHold(holdId);
+    } catch(HoldNotFoundException e) {
       return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
     }
 
@@ -1,9 +1,11 @@
 package com.db.awmd.challenge;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.springframework.test.web.servlet.setup.MockMvcBuilders.webAppContextSetup;
 
@@ -12,6 +14,7 @@ import com.db.awmd.challenge.service.AccountsService;
 import java.math.BigDecimal;
 
 import com.db.awmd.challenge.service.NotificationService;
+import com.jayway.jsonpath.JsonPath;
 import org.junit.Before;
 
 import org.junit.Test;
@@ -107,7 +110,7 @@ public class AccountsControllerTest {
     this.mockMvc.perform(get("/v1/accounts/" + uniqueAccountId))
       .andExpect(status().isOk())
       .andExpect(
-        content().string("{\"accountId\":\"" + uniqueAccountId + "\",\"balance\":123.45}"));
+        content().string("{\"accountId\":\"" + uniqueAccountId + "\",\"balance\":123.45,\"availableBalance\":123.45}"));
   }
 
   @Test
@@ -287,6 +290,66 @@ public class AccountsControllerTest {
     assertThat(accountTo.getBalance()).isEqualByComparingTo("2000");
   }
 
+  @Test
+  public void captureHold() throws Exception {
+    prepareAccounts();
+
+    String holdId = authorizeHold("{\"accountFrom\":\"Id-123\", \"accountTo\":\"Id-456\", \"amount\":300}");
+
+    this.mockMvc.perform(post("/v1/accounts/holds/" + holdId + "/capture")).andExpect(status().isOk());
+
+    Account accountFrom = accountsService.getAccount("Id-123");
+    Account accountTo = accountsService.getAccount("Id-456");
+    assertThat(accountFrom.getBalance()).isEqualByComparingTo("700");
+    assertThat(accountTo.getBalance()).isEqualByComparingTo("2300");
+  }
+
+  @Test
+  public void releaseHold() throws Exception {
+    prepareAccounts();
+
+    String holdId = authorizeHold("{\"accountFrom\":\"Id-123\", \"accountTo\":\"Id-456\", \"amount\":300}");
+
+    this.mockMvc.perform(delete("/v1/accounts/holds/" + holdId)).andExpect(status().isOk());
+    this.mockMvc.perform(post("/v1/accounts/holds/" + holdId + "/capture"))
+            .andExpect(status().isBadRequest())
+            .andExpect(content().string("Hold Id " + holdId + " does not exist."));
+
+    Account accountFrom = accountsService.getAccount("Id-123");
+    assertThat(accountFrom.getBalance()).isEqualByComparingTo("1000");
+    assertThat(accountFrom.getAvailableBalance()).isEqualByComparingTo("1000");
+  }
+
+  @Test
+  public void getAccountShowsAvailableBalance() throws Exception {
+    prepareAccounts();
+
+    authorizeHold("{\"accountFrom\":\"Id-123\", \"accountTo\":\"Id-456\", \"amount\":300}");
+
+    this.mockMvc.perform(get("/v1/accounts/Id-123"))
+      .andExpect(status().isOk())
+      .andExpect(jsonPath("$.balance").value(1000))
+      .andExpect(jsonPath("$.availableBalance").value(700));
+  }
+
+  @Test
+  public void authorizeHoldOverDraft() throws Exception {
+    prepareAccounts();
+
+    this.mockMvc.perform(post("/v1/accounts/holds").contentType(MediaType.APPLICATION_JSON)
+            .content("{\"accountFrom\":\"Id-123\", \"accountTo\":\"Id-456\", \"amount\":2500.99}")
+    ).andExpect(status().isBadRequest())
+            .andExpect(content().string("Account Id Id-123 has insufficient balance."));
+  }
+
+  private String authorizeHold(String request) throws Exception {
+    String response = this.mockMvc.perform(post("/v1/accounts/holds").contentType(MediaType.APPLICATION_JSON)
+            .content(request)
+    ).andExpect(status().isCreated())
+            .andExpect(jsonPath("$.holdId").exists())
+            .andReturn().getResponse().getContentAsString();
+    return JsonPath.read(response, "$.holdId");
+  }
 
   private void prepareAccounts() throws Exception {
     this.mockMvc.perform(post("/v1/accounts").contentType(MediaType.APPLICATION_JSON)
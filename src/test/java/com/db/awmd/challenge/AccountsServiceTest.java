@@ -4,11 +4,25 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.Assert.fail;
 
 import com.db.awmd.challenge.domain.Account;
+import com.db.awmd.challenge.domain.Hold;
+import com.db.awmd.challenge.exception.AccountNotFoundException;
 import com.db.awmd.challenge.exception.AccountOverdraftException;
+import com.db.awmd.challenge.exception.CurrencyConversionException;
 import com.db.awmd.challenge.exception.DuplicateAccountIdException;
+import com.db.awmd.challenge.exception.HoldNotFoundException;
+import com.db.awmd.challenge.repository.AccountsRepositoryInMemory;
+import com.db.awmd.challenge.repository.HoldExpiryWheel;
 import com.db.awmd.challenge.service.AccountsService;
+import com.db.awmd.challenge.service.FxRateService;
 import java.math.BigDecimal;
 
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -26,6 +40,7 @@ public class AccountsServiceTest {
   @Before
   public void clearUp() {
     this.accountsService.getAccountsRepository().clearAccounts();
+    this.accountsService.getFxRateService().updateRates(Collections.singletonMap("EUR/USD", new BigDecimal("1.25")));
   }
 
   @Test
@@ -77,6 +92,204 @@ public class AccountsServiceTest {
     assertThat(accountTo.getBalance()).isEqualByComparingTo("1000");
   }
 
+  @Test
+  public void transferBalanceAcrossCurrencies() throws Exception {
+    Account accountFrom = createAccount("Id-123", new BigDecimal(3000), "EUR");
+    Account accountTo = createAccount("Id-456", new BigDecimal(1000), "USD");
+
+    this.accountsService.transferBalance(accountFrom, accountTo, new BigDecimal(600));
+
+    assertThat(accountFrom.getBalance()).isEqualByComparingTo("2400");
+    assertThat(accountTo.getBalance()).isEqualByComparingTo("1750");
+
+    this.accountsService.transferBalance(accountTo, accountFrom, new BigDecimal(250));
+
+    assertThat(accountFrom.getBalance()).isEqualByComparingTo("2600");
+    assertThat(accountTo.getBalance()).isEqualByComparingTo("1500");
+  }
+
+  @Test
+  public void transferBalanceNoExchangeRate() throws Exception {
+    Account accountFrom = createAccount("Id-123", new BigDecimal(3000), "EUR");
+    Account accountTo = createAccount("Id-456", new BigDecimal(1000), "GBP");
+    try {
+      this.accountsService.transferBalance(accountFrom, accountTo, new BigDecimal(600));
+      fail("Transfer without an exchange rate should fail");
+    } catch (CurrencyConversionException cce) {
+      assertThat(cce.getMessage()).isEqualTo("No exchange rate available from EUR to GBP.");
+    }
+    assertThat(accountFrom.getBalance()).isEqualByComparingTo("3000");
+    assertThat(accountTo.getBalance()).isEqualByComparingTo("1000");
+  }
+
+  @Test
+  public void captureHold() throws Exception {
+    Account accountFrom = createAccount("Id-123", new BigDecimal(3000));
+    Account accountTo = createAccount("Id-456", new BigDecimal(1000));
+
+    Hold hold = this.accountsService.authorizeHold(accountFrom, accountTo, new BigDecimal(600));
+
+    assertThat(accountFrom.getBalance()).isEqualByComparingTo("3000");
+    assertThat(accountFrom.getAvailableBalance()).isEqualByComparingTo("2400");
+
+    this.accountsService.captureHold(hold.getHoldId());
+
+    assertThat(accountFrom.getBalance()).isEqualByComparingTo("2400");
+    assertThat(accountFrom.getAvailableBalance()).isEqualByComparingTo("2400");
+    assertThat(accountTo.getBalance()).isEqualByComparingTo("1600");
+  }
+
+  @Test
+  public void releaseHold() throws Exception {
+    Account accountFrom = createAccount("Id-123", new BigDecimal(3000));
+    Account accountTo = createAccount("Id-456", new BigDecimal(1000));
+
+    Hold hold = this.accountsService.authorizeHold(accountFrom, accountTo, new BigDecimal(600));
+    this.accountsService.releaseHold(hold.getHoldId());
+
+    assertThat(accountFrom.getBalance()).isEqualByComparingTo("3000");
+    assertThat(accountFrom.getAvailableBalance()).isEqualByComparingTo("3000");
+    assertThat(accountTo.getBalance()).isEqualByComparingTo("1000");
+
+    try {
+      this.accountsService.captureHold(hold.getHoldId());
+      fail("Released hold should not be captured");
+    } catch (HoldNotFoundException hnfe) {
+      assertThat(hnfe.getMessage()).isEqualTo("Hold Id " + hold.getHoldId() + " does not exist.");
+    }
+  }
+
+  @Test
+  public void transferBalanceOverDraftOfAvailableBalance() throws Exception {
+    Account accountFrom = createAccount("Id-123", new BigDecimal(3000));
+    Account accountTo = createAccount("Id-456", new BigDecimal(1000));
+
+    this.accountsService.authorizeHold(accountFrom, accountTo, new BigDecimal(2500));
+    try {
+      this.accountsService.transferBalance(accountFrom, accountTo, new BigDecimal(600));
+      fail("Transfer above the available balance should fail");
+    } catch (AccountOverdraftException aoe) {
+      assertThat(aoe.getMessage()).isEqualTo("Account Id Id-123 has insufficient balance.");
+    }
+    assertThat(accountFrom.getBalance()).isEqualByComparingTo("3000");
+    assertThat(accountTo.getBalance()).isEqualByComparingTo("1000");
+  }
+
+  @Test
+  public void authorizeHoldOnMissingAccount() throws Exception {
+    Account accountFrom = new Account("Id-123", new BigDecimal(3000));
+    Account accountTo = createAccount("Id-456", new BigDecimal(1000));
+    try {
+      this.accountsService.authorizeHold(accountFrom, accountTo, new BigDecimal(600));
+      fail("Hold on a missing account should fail");
+    } catch (AccountNotFoundException anfe) {
+      assertThat(anfe.getMessage()).isEqualTo("Account Id Id-123 does not exists.");
+    }
+    assertThat(((AccountsRepositoryInMemory) this.accountsService.getAccountsRepository()).outstandingHolds()).isEqualTo(0);
+  }
+
+  @Test
+  public void releaseExpiredHolds() throws Exception {
+    Account accountFrom = createAccount("Id-123", new BigDecimal(3000));
+    Account accountTo = createAccount("Id-456", new BigDecimal(1000));
+
+    Hold hold = this.accountsService.authorizeHold(accountFrom, accountTo, new BigDecimal(600));
+
+    assertThat(this.accountsService.getAccountsRepository().releaseExpiredHolds(hold.getDeadlineNanos() - 1)).isEqualTo(0);
+    assertThat(this.accountsService.getAccountsRepository().releaseExpiredHolds(hold.getDeadlineNanos() + TimeUnit.SECONDS.toNanos(1))).isEqualTo(1);
+    assertThat(accountFrom.getAvailableBalance()).isEqualByComparingTo("3000");
+  }
+
+  @Test
+  public void claimedHoldsLeaveExpiryWheel() throws Exception {
+    Account accountFrom = createAccount("Id-123", new BigDecimal(3000));
+    Account accountTo = createAccount("Id-456", new BigDecimal(1000));
+    AccountsRepositoryInMemory repository = (AccountsRepositoryInMemory) this.accountsService.getAccountsRepository();
+
+    Hold captured = this.accountsService.authorizeHold(accountFrom, accountTo, new BigDecimal(600));
+    Hold released = this.accountsService.authorizeHold(accountFrom, accountTo, new BigDecimal(600));
+    assertThat(repository.outstandingHolds()).isEqualTo(2);
+
+    this.accountsService.captureHold(captured.getHoldId());
+    this.accountsService.releaseHold(released.getHoldId());
+
+    assertThat(repository.outstandingHolds()).isEqualTo(0);
+    assertThat(captured.getHoldId()).isNotEqualTo(released.getHoldId());
+  }
+
+  @Test
+  public void expiryWheelIgnoresInsertionOrder() throws Exception {
+    long tickNanos = TimeUnit.SECONDS.toNanos(1);
+    HoldExpiryWheel wheel = new HoldExpiryWheel(tickNanos, 16);
+    long now = System.nanoTime();
+    Hold later = new Hold("H-later", "Id-123", "Id-456", BigDecimal.ONE, now + 100 * tickNanos);
+    Hold sooner = new Hold("H-sooner", "Id-123", "Id-456", BigDecimal.ONE, now + 3 * tickNanos);
+    wheel.schedule(wheel.newTimeout(later));
+    wheel.schedule(wheel.newTimeout(sooner));
+
+    assertThat(wheel.expire(now + 5 * tickNanos)).containsExactly(sooner);
+    assertThat(wheel.expire(now + 102 * tickNanos)).containsExactly(later);
+    assertThat(wheel.size()).isEqualTo(0);
+  }
+
+  @Test
+  public void transferBalanceToAccountWithoutCurrency() throws Exception {
+    Account accountFrom = createAccount("Id-123", new BigDecimal(3000), "EUR");
+    Account accountTo = createAccount("Id-456", new BigDecimal(1000));
+    try {
+      this.accountsService.transferBalance(accountFrom, accountTo, new BigDecimal(600));
+      fail("Transfer between an account with and one without a currency should fail");
+    } catch (CurrencyConversionException cce) {
+      assertThat(cce.getMessage()).isEqualTo("Cannot convert between an account in EUR and an account without a currency.");
+    }
+    try {
+      this.accountsService.transferBalance(accountTo, accountFrom, new BigDecimal(600));
+      fail("Transfer between an account without and one with a currency should fail");
+    } catch (CurrencyConversionException cce) {
+      assertThat(cce.getMessage()).isEqualTo("Cannot convert between an account in EUR and an account without a currency.");
+    }
+    assertThat(accountFrom.getBalance()).isEqualByComparingTo("3000");
+    assertThat(accountTo.getBalance()).isEqualByComparingTo("1000");
+  }
+
+  @Test
+  public void transferBalanceTooSmallToConvert() throws Exception {
+    Account accountFrom = createAccount("Id-123", new BigDecimal(3000), "EUR");
+    Account accountTo = createAccount("Id-456", new BigDecimal(1000), "USD");
+    try {
+      this.accountsService.transferBalance(accountFrom, accountTo, new BigDecimal("0.004"));
+      fail("Transfer converting to zero should fail");
+    } catch (CurrencyConversionException cce) {
+      assertThat(cce.getMessage()).isEqualTo("Amount 0.004 is too small to convert from EUR to USD.");
+    }
+    assertThat(accountFrom.getBalance()).isEqualByComparingTo("3000");
+    assertThat(accountTo.getBalance()).isEqualByComparingTo("1000");
+  }
+
+  @Test
+  public void refreshRatesKeepsRatesOnMalformedFile() throws Exception {
+    Path ratesFile = Files.createTempFile("rates", ".properties");
+    try {
+      Files.write(ratesFile, Collections.singletonList("EUR/USD=1.25"), StandardCharsets.UTF_8);
+      FxRateService fxRateService = new FxRateService(ratesFile.toString());
+      fxRateService.refreshFromFile();
+
+      Files.write(ratesFile, Arrays.asList("EUR/USD=abc", "GBP=1.1"), StandardCharsets.UTF_8);
+      Files.setLastModifiedTime(ratesFile, FileTime.fromMillis(System.currentTimeMillis() + 1000));
+      fxRateService.refreshFromFile();
+
+      assertThat(fxRateService.convert(new BigDecimal(100), "EUR", "USD")).isEqualByComparingTo("125");
+    } finally {
+      Files.delete(ratesFile);
+    }
+  }
+
+  private Account createAccount(String accountId, BigDecimal balance, String currency) throws Exception {
+    Account account = new Account(accountId, balance, currency);
+    this.accountsService.createAccount(account);
+    return account;
+  }
+
   private Account createAccount(String accountId, BigDecimal balance) throws Exception {
      Account account = new Account(accountId);
      account.setBalance(balance);
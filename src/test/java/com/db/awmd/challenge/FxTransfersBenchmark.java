@@ -0,0 +1,60 @@
+package com.db.awmd.challenge;
+
+import com.db.awmd.challenge.domain.Account;
+import com.db.awmd.challenge.repository.AccountsRepositoryInMemory;
+import com.db.awmd.challenge.service.AccountsService;
+import com.db.awmd.challenge.service.FxRateService;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares same-currency transfers with EUR to USD transfers, reporting time and bytes
+ * allocated per transfer. Run with {@code gradle fxBenchmark}.
+ * Arguments: measured transfers per round (default 2000000).
+ */
+public class FxTransfersBenchmark {
+
+  private static final com.sun.management.ThreadMXBean THREADS =
+    (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+  public static void main(String[] args) {
+    int operations = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+
+    FxRateService fxRateService = new FxRateService("");
+    fxRateService.updateRates(Collections.singletonMap("EUR/USD", new BigDecimal("1.0842")));
+    AccountsService accountsService = new AccountsService(new AccountsRepositoryInMemory(), fxRateService, TimeUnit.DAYS.toMillis(7));
+    Account plainFrom = createAccount(accountsService, "Id-1", null);
+    Account plainTo = createAccount(accountsService, "Id-2", null);
+    Account eurFrom = createAccount(accountsService, "Id-3", "EUR");
+    Account eurTo = createAccount(accountsService, "Id-4", "EUR");
+    Account usdTo = createAccount(accountsService, "Id-5", "USD");
+    BigDecimal amount = new BigDecimal("12.34");
+
+    for (int round = 0; round < 3; round++) {
+      run("no currency", operations, () -> accountsService.transferBalance(plainFrom, plainTo, amount));
+      run("EUR -> EUR", operations, () -> accountsService.transferBalance(eurFrom, eurTo, amount));
+      run("EUR -> USD", operations, () -> accountsService.transferBalance(eurFrom, usdTo, amount));
+    }
+  }
+
+  private static void run(String name, int operations, Runnable transfer) {
+    long thread = Thread.currentThread().getId();
+    long allocatedBefore = THREADS.getThreadAllocatedBytes(thread);
+    long start = System.nanoTime();
+    for (int i = 0; i < operations; i++) {
+      transfer.run();
+    }
+    long elapsed = System.nanoTime() - start;
+    long allocated = THREADS.getThreadAllocatedBytes(thread) - allocatedBefore;
+    System.out.printf("%-12s %10d ops %6d ns/op %6d bytes/op%n", name, operations, elapsed / operations, allocated / operations);
+  }
+
+  private static Account createAccount(AccountsService accountsService, String accountId, String currency) {
+    Account account = new Account(accountId, new BigDecimal("1000000000000"), currency);
+    accountsService.createAccount(account);
+    return account;
+  }
+}
@@ -0,0 +1,77 @@
+package com.db.awmd.challenge;
+
+import com.db.awmd.challenge.domain.Account;
+import com.db.awmd.challenge.domain.Hold;
+import com.db.awmd.challenge.repository.AccountsRepositoryInMemory;
+import com.db.awmd.challenge.service.AccountsService;
+import com.db.awmd.challenge.service.FxRateService;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares plain transfers with authorize/capture while millions of holds are outstanding,
+ * then checks that claimed holds are freed. Run with {@code gradle holdsBenchmark}.
+ * Arguments: outstanding holds (default 2000000), measured operations (default 1000000).
+ */
+public class HoldsBenchmark {
+
+  private static final int ACCOUNTS = 1000;
+
+  public static void main(String[] args) {
+    int outstanding = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+    int operations = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+
+    AccountsRepositoryInMemory repository = new AccountsRepositoryInMemory();
+    AccountsService accountsService = new AccountsService(repository, new FxRateService(""), TimeUnit.DAYS.toMillis(7));
+    Account[] accounts = new Account[ACCOUNTS];
+    for (int i = 0; i < ACCOUNTS; i++) {
+      accounts[i] = new Account("Id-" + i, new BigDecimal("1000000000000"));
+      accountsService.createAccount(accounts[i]);
+    }
+    BigDecimal amount = BigDecimal.ONE;
+
+    long start = System.nanoTime();
+    Hold[] holds = new Hold[outstanding];
+    for (int i = 0; i < outstanding; i++) {
+      holds[i] = accountsService.authorizeHold(accounts[i % ACCOUNTS], accounts[(i + 1) % ACCOUNTS], amount);
+    }
+    report("authorize (filling outstanding holds)", outstanding, start);
+    System.out.printf("outstanding holds: %d, heap used: %d MB%n", repository.outstandingHolds(), usedHeapMegabytes());
+
+    for (int round = 0; round < 3; round++) {
+      start = System.nanoTime();
+      for (int i = 0; i < operations; i++) {
+        accountsService.transferBalance(accounts[i % ACCOUNTS], accounts[(i + 1) % ACCOUNTS], amount);
+      }
+      report("transfer", operations, start);
+
+      start = System.nanoTime();
+      for (int i = 0; i < operations; i++) {
+        Hold hold = accountsService.authorizeHold(accounts[i % ACCOUNTS], accounts[(i + 1) % ACCOUNTS], amount);
+        accountsService.captureHold(hold.getHoldId());
+      }
+      report("authorize + capture", operations, start);
+    }
+
+    start = System.nanoTime();
+    for (int i = 0; i < outstanding; i++) {
+      accountsService.releaseHold(holds[i].getHoldId());
+    }
+    report("release", outstanding, start);
+    holds = null;
+    System.out.printf("outstanding holds: %d, heap used: %d MB%n", repository.outstandingHolds(), usedHeapMegabytes());
+  }
+
+  private static void report(String name, int operations, long startNanos) {
+    long elapsed = System.nanoTime() - startNanos;
+    System.out.printf("%-40s %10d ops %8d ns/op %12.0f ops/s%n", name, operations, elapsed / operations,
+      operations / (elapsed / 1e9));
+  }
+
+  private static long usedHeapMegabytes() {
+    System.gc();
+    Runtime runtime = Runtime.getRuntime();
+    return (runtime.totalMemory() - runtime.freeMemory()) / (1024 * 1024);
+  }
+}
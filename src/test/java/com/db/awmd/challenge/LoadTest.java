@@ -0,0 +1,212 @@
+package com.db.awmd.challenge;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.Inet4Address;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Holds tens of thousands of concurrent keep-alive connections against a running server and
+ * reports throughput and latency, to compare Tomcat's platform thread pool with virtual threads.
+ * Each connection alternates GET /v1/accounts/{id} and POST /v1/accounts/transfer.
+ * Run with {@code gradle loadTest -PloadTestArgs=host,port,connections,requestsPerConnection}
+ * (defaults 127.0.0.1,18080,50000,10), see README for the server settings.
+ */
+public class LoadTest {
+
+  //ephemeral ports per local address are limited, so loopback clients spread over 127.0.0.x.
+  private static final int CONNECTIONS_PER_LOCAL_ADDRESS = 20_000;
+
+  private static final long STALL_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(60);
+
+  private static final ByteBuffer READ_BUFFER = ByteBuffer.allocate(16 * 1024);
+
+  public static void main(String[] args) throws Exception {
+    String host = args.length > 0 ? args[0] : "127.0.0.1";
+    int port = args.length > 1 ? Integer.parseInt(args[1]) : 18080;
+    int connections = args.length > 2 ? Integer.parseInt(args[2]) : 50_000;
+    int requestsPerConnection = args.length > 3 ? Integer.parseInt(args[3]) : 10;
+
+    createAccount(host, port, "LT-A");
+    createAccount(host, port, "LT-B");
+
+    InetAddress target = InetAddress.getByName(host);
+    boolean spreadLocalAddresses = target.isLoopbackAddress() && target instanceof Inet4Address;
+    Selector selector = Selector.open();
+    long[] latencies = new long[connections * requestsPerConnection];
+    int recorded = 0;
+    int errors = 0;
+    int finished = 0;
+
+    long start = System.nanoTime();
+    for (int i = 0; i < connections; i++) {
+      SocketChannel channel = SocketChannel.open();
+      channel.configureBlocking(false);
+      if (spreadLocalAddresses) {
+        byte[] local = {127, 0, 0, (byte) (1 + i / CONNECTIONS_PER_LOCAL_ADDRESS)};
+        channel.bind(new InetSocketAddress(InetAddress.getByAddress(local), 0));
+      }
+      channel.connect(new InetSocketAddress(target, port));
+      channel.register(selector, SelectionKey.OP_CONNECT, new Client(i, channel, host + ":" + port));
+    }
+    System.out.printf("opened %d connections in %d ms%n", connections, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+
+    long lastProgress = System.nanoTime();
+    while (finished < connections && System.nanoTime() - lastProgress < STALL_TIMEOUT_NANOS) {
+      selector.select(1000);
+      Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+      while (keys.hasNext()) {
+        SelectionKey key = keys.next();
+        keys.remove();
+        Client client = (Client) key.attachment();
+        try {
+          if (key.isConnectable()) {
+            client.channel.finishConnect();
+            client.send(key);
+          } else if (key.isWritable()) {
+            client.write(key);
+          } else if (key.isReadable()) {
+            int status = client.read();
+            if (status < 0) {
+              continue;
+            }
+            latencies[recorded++] = System.nanoTime() - client.sentAt;
+            if (status >= 300) {
+              errors++;
+            }
+            if (++client.completed == requestsPerConnection) {
+              key.cancel();
+              client.channel.close();
+              finished++;
+            } else {
+              client.send(key);
+            }
+          }
+          lastProgress = System.nanoTime();
+        } catch (IOException e) {
+          errors += requestsPerConnection - client.completed;
+          key.cancel();
+          client.channel.close();
+          finished++;
+        }
+      }
+    }
+    long elapsed = System.nanoTime() - start;
+    errors += (connections - finished) * requestsPerConnection;
+    selector.close();
+
+    Arrays.sort(latencies, 0, recorded);
+    System.out.printf("responses: %d, errors: %d, elapsed: %d ms, throughput: %.0f req/s%n", recorded, errors,
+      TimeUnit.NANOSECONDS.toMillis(elapsed), recorded / (elapsed / 1e9));
+    if (recorded > 0) {
+      System.out.printf("latency ms p50: %.1f p90: %.1f p99: %.1f max: %.1f%n", percentile(latencies, recorded, 0.5),
+        percentile(latencies, recorded, 0.9), percentile(latencies, recorded, 0.99), latencies[recorded - 1] / 1e6);
+    }
+  }
+
+  private static double percentile(long[] sorted, int count, double percentile) {
+    return sorted[Math.min(count - 1, (int) (count * percentile))] / 1e6;
+  }
+
+  private static void createAccount(String host, int port, String accountId) throws IOException {
+    HttpURLConnection connection = (HttpURLConnection) new URL("http://" + host + ":" + port + "/v1/accounts").openConnection();
+    connection.setRequestMethod("POST");
+    connection.setRequestProperty("Content-Type", "application/json");
+    connection.setDoOutput(true);
+    try (OutputStream out = connection.getOutputStream()) {
+      out.write(("{\"accountId\":\"" + accountId + "\",\"balance\":1000000000000}").getBytes(StandardCharsets.UTF_8));
+    }
+    //400 when the account already exists from an earlier run.
+    connection.getResponseCode();
+    connection.disconnect();
+  }
+
+  private static final class Client {
+
+    private final int id;
+
+    private final SocketChannel channel;
+
+    private final String hostHeader;
+
+    private final StringBuilder response = new StringBuilder();
+
+    private ByteBuffer request;
+
+    private int completed;
+
+    private long sentAt;
+
+    private Client(int id, SocketChannel channel, String hostHeader) {
+      this.id = id;
+      this.channel = channel;
+      this.hostHeader = hostHeader;
+    }
+
+    private void send(SelectionKey key) throws IOException {
+      this.request = ByteBuffer.wrap(nextRequest().getBytes(StandardCharsets.US_ASCII));
+      this.sentAt = System.nanoTime();
+      write(key);
+    }
+
+    private void write(SelectionKey key) throws IOException {
+      this.channel.write(this.request);
+      key.interestOps(this.request.hasRemaining() ? SelectionKey.OP_WRITE : SelectionKey.OP_READ);
+    }
+
+    //returns the status code once a full response has been read, -1 while it is incomplete.
+    private int read() throws IOException {
+      READ_BUFFER.clear();
+      if (this.channel.read(READ_BUFFER) < 0) {
+        throw new EOFException("Connection " + this.id + " closed by server.");
+      }
+      READ_BUFFER.flip();
+      this.response.append(StandardCharsets.US_ASCII.decode(READ_BUFFER));
+
+      int headerEnd = this.response.indexOf("\r\n\r\n");
+      if (headerEnd < 0) {
+        return -1;
+      }
+      String headers = this.response.substring(0, headerEnd).toLowerCase();
+      int bodyLength = this.response.length() - headerEnd - 4;
+      int contentLength = headers.indexOf("content-length:");
+      if (contentLength >= 0) {
+        int lineEnd = headers.indexOf("\r\n", contentLength);
+        String value = headers.substring(contentLength + "content-length:".length(), lineEnd < 0 ? headers.length() : lineEnd);
+        if (bodyLength < Integer.parseInt(value.trim())) {
+          return -1;
+        }
+      } else if (headers.contains("transfer-encoding: chunked")) {
+        if (bodyLength < 5 || !this.response.substring(this.response.length() - 5).equals("0\r\n\r\n")) {
+          return -1;
+        }
+      }
+      int status = Integer.parseInt(this.response.substring(9, 12));
+      this.response.setLength(0);
+      return status;
+    }
+
+    private String nextRequest() {
+      if (this.completed % 2 == 0) {
+        return "GET /v1/accounts/LT-A HTTP/1.1\r\nHost: " + this.hostHeader + "\r\n\r\n";
+      }
+      String body = this.id % 2 == 0
+        ? "{\"accountFrom\":\"LT-A\",\"accountTo\":\"LT-B\",\"amount\":0.01}"
+        : "{\"accountFrom\":\"LT-B\",\"accountTo\":\"LT-A\",\"amount\":0.01}";
+      return "POST /v1/accounts/transfer HTTP/1.1\r\nHost: " + this.hostHeader
+        + "\r\nContent-Type: application/json\r\nContent-Length: " + body.length() + "\r\n\r\n" + body;
+    }
+  }
+}
@@ -0,0 +1,95 @@
+package com.db.awmd.challenge;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assume.assumeTrue;
+
+import com.db.awmd.challenge.config.VirtualThreads;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.embedded.EmbeddedServletContainerCustomizer;
+import org.springframework.boot.context.embedded.tomcat.TomcatEmbeddedServletContainerFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.annotation.Bean;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+  properties = "accounts.virtual-threads.enabled=true")
+public class VirtualThreadsConfigTest {
+
+  private static final boolean VIRTUAL_THREADS_SUPPORTED = VirtualThreads.newThreadFactory("probe-") != null;
+
+  @Autowired
+  private EmbeddedServletContainerCustomizer virtualThreadContainerCustomizer;
+
+  @Autowired
+  private ThreadPoolTaskScheduler taskScheduler;
+
+  @Autowired
+  private TestRestTemplate restTemplate;
+
+  @Test
+  public void customizesTomcatConnectorWhenSupported() throws Exception {
+    TomcatEmbeddedServletContainerFactory factory = new TomcatEmbeddedServletContainerFactory();
+
+    this.virtualThreadContainerCustomizer.customize(factory);
+
+    //on a JVM without virtual threads the default Tomcat pool is kept.
+    assertThat(factory.getTomcatConnectorCustomizers()).hasSize(VIRTUAL_THREADS_SUPPORTED ? 1 : 0);
+  }
+
+  @Test
+  public void servesRequestsOnVirtualThreads() throws Exception {
+    assumeTrue("requires a JVM with virtual threads", VIRTUAL_THREADS_SUPPORTED);
+
+    String thread = this.restTemplate.getForObject("/test/current-thread", String.class);
+
+    assertThat(thread).startsWith("VirtualThread[");
+  }
+
+  @Test
+  public void servesRequestsOnPlatformThreadsWithoutVirtualThreads() throws Exception {
+    assumeTrue("requires a JVM without virtual threads", !VIRTUAL_THREADS_SUPPORTED);
+
+    String thread = this.restTemplate.getForObject("/test/current-thread", String.class);
+
+    assertThat(thread).startsWith("Thread[");
+  }
+
+  @Test
+  public void schedulerRunsBackgroundTasks() throws Exception {
+    AtomicReference<String> thread = new AtomicReference<>();
+
+    this.taskScheduler.submit(() -> thread.set(Thread.currentThread().toString())).get(5, TimeUnit.SECONDS);
+
+    assertThat(thread.get()).startsWith(VIRTUAL_THREADS_SUPPORTED ? "VirtualThread[" : "Thread[");
+    assertThat(thread.get()).contains("accounts-scheduler-");
+  }
+
+  @TestConfiguration
+  static class CurrentThreadConfig {
+
+    @Bean
+    public CurrentThreadController currentThreadController() {
+      return new CurrentThreadController();
+    }
+  }
+
+  @RestController
+  static class CurrentThreadController {
+
+    @GetMapping("/test/current-thread")
+    public String currentThread() {
+      return Thread.currentThread().toString();
+    }
+  }
+}